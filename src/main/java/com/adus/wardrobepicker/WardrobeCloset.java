@@ -12,25 +12,36 @@ import java.util.stream.Collectors;
 public class WardrobeCloset {
     private final Map<ItemKind, AtomicInteger> idGenerators;
     private final Map<String, ClothingItem> clothingItems;
+    // dense id-indexed lookup per kind i.e. item with id 'n' sits at index 'n - 1'
+    private final Map<ItemKind, List<ClothingItem>> kindWiseClothingById;
     private final List<List<ClothingItem>> clothingMatchTuples;
 
     public WardrobeCloset() {
         this.idGenerators = Arrays.stream(ItemKind.values())
                 .collect(Collectors.toMap(Function.identity(), ign -> new AtomicInteger(1)));
         this.clothingItems = new LinkedHashMap<>();
+        this.kindWiseClothingById = new EnumMap<>(ItemKind.class);
+        Arrays.stream(ItemKind.values()).forEach(itemKind -> this.kindWiseClothingById.put(itemKind, new ArrayList<>()));
         this.clothingMatchTuples = new ArrayList<>();
     }
 
     public ClothingItem addTop(String name) {
-        ClothingItem top = new ClothingItem(name, ItemKind.TOP);
-        this.clothingItems.put(name, top);
-        return top;
+        return addItem(name, ItemKind.TOP);
     }
 
     public ClothingItem addBottom(String name) {
-        ClothingItem bottom = new ClothingItem(name, ItemKind.BOTTOM);
-        this.clothingItems.put(name, bottom);
-        return bottom;
+        return addItem(name, ItemKind.BOTTOM);
+    }
+
+    private ClothingItem addItem(String name, ItemKind itemKind) {
+        ClothingItem item = new ClothingItem(name, itemKind);
+        ClothingItem replacedItem = this.clothingItems.put(name, item);
+        if (replacedItem != null) {
+            // keep the replaced item's id unresolvable, as it is no longer exported to the selector
+            this.kindWiseClothingById.get(replacedItem.getItemKind()).set(replacedItem.getId() - 1, null);
+        }
+        this.kindWiseClothingById.get(itemKind).add(item);
+        return item;
     }
 
     public static ClothingMatch createMatch() {
@@ -72,20 +83,24 @@ public class WardrobeCloset {
     }
 
     public WardrobeSelection hydrateSelectorOutput(WardrobeSelector.Output selectorOutput) {
-        var idToNameMappings = this.clothingItems.values()
-                .stream()
-                .collect(Collectors.toMap(item -> Pair.of(item.getItemKind(), item.getId()), ClothingItem::getName));
+        var tops = this.kindWiseClothingById.get(ItemKind.TOP);
+        var bottoms = this.kindWiseClothingById.get(ItemKind.BOTTOM);
         var assignmentOfTheDays = selectorOutput.getAssignmentOfTheDays()
                 .stream()
                 .map(daysAssignment -> new WardrobeSelection.AssignmentOfTheDay(
                         daysAssignment.getDay(),
-                        idToNameMappings.get(Pair.of(ItemKind.TOP, daysAssignment.getTop())),
-                        idToNameMappings.get(Pair.of(ItemKind.BOTTOM, daysAssignment.getBottom()))
+                        lookupName(tops, daysAssignment.getTop()),
+                        lookupName(bottoms, daysAssignment.getBottom())
                 ))
                 .collect(Collectors.toList());
         return new WardrobeSelection(assignmentOfTheDays);
     }
 
+    private static String lookupName(List<ClothingItem> itemsById, int id) {
+        ClothingItem item = id >= 1 && id <= itemsById.size() ? itemsById.get(id - 1) : null;
+        return item != null ? item.getName() : null;
+    }
+
     private List<Pair<Integer, Integer>> exportMatchingTuples() {
         return clothingMatchTuples
                 .stream()
@@ -145,7 +160,8 @@ public class WardrobeCloset {
         private final String name;
         private int freshness;
 
-        public ClothingItem(String name, ItemKind itemKind) {
+        // items are only created through the closet, keeping their ids in step with the id-indexed lookup
+        private ClothingItem(String name, ItemKind itemKind) {
             this.id = WardrobeCloset.this.idGenerators.get(itemKind).getAndIncrement();
             this.name = name;
             this.itemKind = itemKind;
@@ -9,16 +9,36 @@ import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solution;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.extension.Tuples;
+import org.chocosolver.solver.constraints.nary.automata.FA.FiniteAutomaton;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.search.strategy.selectors.values.IntDomainRandom;
+import org.chocosolver.solver.search.strategy.selectors.variables.InputOrder;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.tools.MathUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Slf4j
 public class WardrobeSelector {
+    private static final int DEFAULT_USERS_PER_BATCH = 5;
+    private static final long SHARED_TIME_LIMIT_MILLIS = 10_000;
+    private static final long STAGNATION_FAIL_LIMIT = 2_000;
+    private static final long SHARED_STAGNATION_FAIL_LIMIT = 200;
+    private static final long LAUNDRY_SEARCH_SEED = 0;
+    // day-wise laundry-events of an item
+    private static final int NOT_WORN = 0;
+    private static final int WORN = 1;
+    private static final int SENT_TO_WASH = 2;
 
     /**
      * Based on the given apparels information, devises hard and soft constraints to come up with a wardrobe-selection.
@@ -40,6 +60,12 @@ public class WardrobeSelector {
     public Output select(int days, int nTops, int nBottoms,
                          List<Pair<Integer, Integer>> topsFreshness, List<Pair<Integer, Integer>> bottomsFreshness,
                          List<Pair<Integer, Integer>> matchingPairs) {
+        return select(days, nTops, nBottoms, topsFreshness, bottomsFreshness, matchingPairs, null);
+    }
+
+    private Output select(int days, int nTops, int nBottoms,
+                          List<Pair<Integer, Integer>> topsFreshness, List<Pair<Integer, Integer>> bottomsFreshness,
+                          List<Pair<Integer, Integer>> matchingPairs, Laundry laundry) {
         Model model = new Model("Wardrobe Picking");
 
         IntVar[] tops = model.intVarArray("tops", days, 1, nTops);
@@ -49,6 +75,9 @@ public class WardrobeSelector {
         addMatchingPairsConstraint(days, matchingPairs, model, tops, bottoms);
         addFreshnessConstraint(days, topsFreshness, model, tops);
         addFreshnessConstraint(days, bottomsFreshness, model, bottoms);
+        if (laundry != null) {
+            addLaundryConstraint(days, laundry, model, tops, nTops, bottoms, nBottoms);
+        }
 
         // soft-constraints to add variety in selection
         IntVar topL1Deviation = computeDeviationInItemAssignment(model, tops, nTops, days, "top");
@@ -60,7 +89,17 @@ public class WardrobeSelector {
         Solver solver = model.getSolver();
         solver.showShortStatistics();
         solver.limitTime("10s");
-        Solution optimalSolution = solver.findOptimalSolution(totalL1Deviation, Model.MINIMIZE);
+        Solution optimalSolution;
+        if (laundry != null) {
+            // Plan day after day; picking the least item-id would keep wearing the same few items till laundry
+            // runs them out, whereas picking a random (yet reproducible) one spreads the wears from the start.
+            // Proving optimality is out of reach over long horizons, hence settle for the best plan found.
+            solver.setSearch(Search.intVarSearch(new InputOrder<>(model), new IntDomainRandom(LAUNDRY_SEARCH_SEED),
+                    dayWiseItems(days, new IntVar[][]{tops}, new IntVar[][]{bottoms})));
+            optimalSolution = findBestSolution(solver, totalL1Deviation, STAGNATION_FAIL_LIMIT);
+        } else {
+            optimalSolution = solver.findOptimalSolution(totalL1Deviation, Model.MINIMIZE);
+        }
         if (optimalSolution != null) {
             log.debug("Solution found! Solution: " + optimalSolution);
             return prepareWardrobeSelection(tops, bottoms, optimalSolution);
@@ -80,6 +119,52 @@ public class WardrobeSelector {
         log.debug("Added {} tuples-constraints to encode {} matching-pairs requirement.", days, matchingPairs.size());
     }
 
+    private void addSharedCapacityConstraint(int days, Model model, IntVar[][] itemsOfTheDaysPerUser) {
+        for (int day = 0; day < days; day++) {
+            IntVar[] itemsOfTheDay = new IntVar[itemsOfTheDaysPerUser.length];
+            for (int user = 0; user < itemsOfTheDaysPerUser.length; user++) {
+                itemsOfTheDay[user] = itemsOfTheDaysPerUser[user][day];
+            }
+            // An item can be worn by at most one user on a given day
+            model.allDifferent(itemsOfTheDay).post();
+        }
+        log.debug("Added {} all-different constraints to encode shared-capacity requirement.", days);
+    }
+
+    private void addReservationConstraint(int days, List<Set<Integer>> reservedItems, Model model, IntVar[] itemsOfTheDays) {
+        for (int day = 0; day < days; day++) {
+            Set<Integer> reservedItemsOfTheDay = reservedItems.get(day);
+            if (!reservedItemsOfTheDay.isEmpty()) {
+                // Items already assigned to users planned earlier are not available on that day
+                model.notMember(itemsOfTheDays[day], reservedItemsOfTheDay.stream().mapToInt(Integer::intValue).toArray()).post();
+            }
+        }
+    }
+
+    private void addSharedFreshnessConstraint(int days, List<Pair<Integer, Integer>> itemsFreshness, List<Set<Integer>> reservedItems,
+                                              Model model, IntVar[][] itemsOfTheDaysPerUser) {
+        int constraintCount = 0;
+        for (Pair<Integer, Integer> freshness : itemsFreshness) {
+            Integer item = freshness.getKey();
+            Integer freshForDays = freshness.getValue();
+            for (int startDay = 0; startDay < days - freshForDays; startDay++) {
+                int windowStartDay = startDay;
+                int windowEndDay = startDay + freshForDays + 1;
+                // wears by users planned earlier count towards the item's freshness as well
+                int reservedWears = (int) IntStream.range(windowStartDay, windowEndDay)
+                        .filter(day -> reservedItems.get(day).contains(item))
+                        .count();
+                IntVar[] itemsOfTheWindow = Arrays.stream(itemsOfTheDaysPerUser)
+                        .flatMap(itemsOfTheDays -> Arrays.stream(itemsOfTheDays, windowStartDay, windowEndDay))
+                        .toArray(IntVar[]::new);
+                // Do not let this item be worn, by whichever user, consecutively for more than "freshForDays" days
+                model.count(item, itemsOfTheWindow, model.intVar(0, freshForDays - reservedWears)).post();
+                constraintCount++;
+            }
+        }
+        log.debug("Added {} constraints to encode shared freshness requirement.", constraintCount);
+    }
+
     private void addFreshnessConstraint(int days, List<Pair<Integer, Integer>> topsFreshness, Model model, IntVar[] topsOfTheDays) {
         int constraintCount = 0;
         for (Pair<Integer, Integer> freshness : topsFreshness) {
@@ -94,6 +179,91 @@ public class WardrobeSelector {
         log.debug("Added {} constraints to encode freshness requirement.", constraintCount);
     }
 
+    private void addLaundryConstraint(int days, Laundry laundry, Model model,
+                                      IntVar[] topsOfTheDays, int nTops, IntVar[] bottomsOfTheDays, int nBottoms) {
+        if (laundry.getWearsBeforeWash() < 1 || laundry.getWashDays() < 1
+                || laundry.getWashCapacity() < 0 || laundry.getCycleDays() < 1) {
+            throw new IllegalArgumentException("Invalid laundry requirement: " + laundry);
+        }
+        FiniteAutomaton laundryAutomaton = createLaundryAutomaton(laundry);
+        List<IntVar[]> laundryEvents = new ArrayList<>();
+        laundryEvents.addAll(trackLaundryEvents(days, laundryAutomaton, model, topsOfTheDays, nTops, "top"));
+        laundryEvents.addAll(trackLaundryEvents(days, laundryAutomaton, model, bottomsOfTheDays, nBottoms, "bottom"));
+
+        // Do not send more than "washCapacity" items to laundry within a wash-cycle
+        int cycles = MathUtils.divCeil(days, laundry.getCycleDays());
+        for (int cycle = 0; cycle < cycles; cycle++) {
+            int cycleStartDay = cycle * laundry.getCycleDays();
+            int cycleEndDay = Math.min(days, cycleStartDay + laundry.getCycleDays());
+            IntVar[] laundryEventsInCycle = laundryEvents.stream()
+                    .flatMap(itemLaundryEvents -> Arrays.stream(itemLaundryEvents, cycleStartDay, cycleEndDay))
+                    .toArray(IntVar[]::new);
+            IntVar washLoad = model.intVar("washLoad" + (cycle + 1), 0, laundry.getWashCapacity());
+            model.count(SENT_TO_WASH, laundryEventsInCycle, washLoad).post();
+        }
+        log.debug("Added {} laundry-automata and {} wash-capacity constraints to encode laundry requirement.",
+                nTops + nBottoms, cycles);
+    }
+
+    /**
+     * Laundry-automaton over the day-wise laundry-events of an item, its states being:
+     * - 0 to (wearsBeforeWash - 1): available, having been worn that many times since the last wash
+     * - wearsBeforeWash onwards: unavailable, being washed for the next "washDays" days
+     * The "wearsBeforeWash"th wear is the one sending the item to laundry.
+     */
+    private FiniteAutomaton createLaundryAutomaton(Laundry laundry) {
+        FiniteAutomaton automaton = new FiniteAutomaton();
+        int[] wearStates = new int[laundry.getWearsBeforeWash()];
+        for (int wears = 0; wears < wearStates.length; wears++) {
+            wearStates[wears] = automaton.addState();
+        }
+        int[] washStates = new int[laundry.getWashDays()];
+        for (int washDay = 0; washDay < washStates.length; washDay++) {
+            washStates[washDay] = automaton.addState();
+        }
+        automaton.setInitialState(wearStates[0]);
+        automaton.setFinal(wearStates);
+        automaton.setFinal(washStates);
+
+        for (int wears = 0; wears < wearStates.length; wears++) {
+            automaton.addTransition(wearStates[wears], wearStates[wears], NOT_WORN);
+            if (wears + 1 < wearStates.length) {
+                automaton.addTransition(wearStates[wears], wearStates[wears + 1], WORN);
+            } else {
+                automaton.addTransition(wearStates[wears], washStates[0], SENT_TO_WASH);
+            }
+        }
+        for (int washDay = 0; washDay < washStates.length; washDay++) {
+            automaton.addTransition(washStates[washDay],
+                    washDay + 1 < washStates.length ? washStates[washDay + 1] : wearStates[0], NOT_WORN);
+        }
+        return automaton;
+    }
+
+    private List<IntVar[]> trackLaundryEvents(int days, FiniteAutomaton laundryAutomaton, Model model,
+                                              IntVar[] itemsOfTheDays, int nItems, String itemKind) {
+        List<IntVar[]> laundryEvents = new ArrayList<>();
+        for (int itemId = 1; itemId <= nItems; itemId++) {
+            IntVar[] itemLaundryEvents = model.intVarArray(itemKind + itemId + "LaundryEvents", days, NOT_WORN, SENT_TO_WASH);
+            // the item is worn on a day iff its laundry-event of the day is a wear
+            Tuples wearsOfTheItem = new Tuples(true);
+            for (int item = 1; item <= nItems; item++) {
+                if (item == itemId) {
+                    wearsOfTheItem.add(item, WORN);
+                    wearsOfTheItem.add(item, SENT_TO_WASH);
+                } else {
+                    wearsOfTheItem.add(item, NOT_WORN);
+                }
+            }
+            for (int day = 0; day < days; day++) {
+                model.table(itemsOfTheDays[day], itemLaundryEvents[day], wearsOfTheItem).post();
+            }
+            model.regular(itemLaundryEvents, laundryAutomaton).post();
+            laundryEvents.add(itemLaundryEvents);
+        }
+        return laundryEvents;
+    }
+
     private IntVar computeDeviationInItemAssignment(Model model, IntVar[] itemsOfTheDays, int nItems, int days, String itemKind) {
         // find histogram
         IntVar[] itemFrequencies = model.intVarArray(itemKind + "Frequencies", nItems, 0, days);
@@ -108,7 +278,8 @@ public class WardrobeSelector {
         for (int i = 0; i < itemFrequencies.length; i++) {
             itemFrequenciesResidues[i] = itemFrequencies[i].add(-itemMeanFrequency).abs().intVar();
         }
-        IntVar itemL1Deviation = model.intVar(itemKind + "L1Deviation", 0, days);
+        // every residue is bounded by max(frequency, mean-frequency), so is their sum
+        IntVar itemL1Deviation = model.intVar(itemKind + "L1Deviation", 0, days + nItems * itemMeanFrequency);
         model.sum(itemFrequenciesResidues, "=", itemL1Deviation).post();
         return itemL1Deviation;
     }
@@ -148,6 +319,193 @@ public class WardrobeSelector {
                 input.getTopsFreshness(), input.getBottomsFreshness(), input.getMatchingPairs());
     }
 
+    /**
+     * Same as {@link #select(int, Input)}, additionally honoring the laundry requirement:
+     * after being worn "wearsBeforeWash" times an item goes to laundry and is unavailable for the next "washDays" days,
+     * and at most "washCapacity" items can be sent to laundry within each wash-cycle of "cycleDays" days.
+     * <p>
+     * Every item's day-wise laundry-events are constrained by a laundry-automaton, and the wash-capacity is enforced
+     * by counting the sent-to-wash events once per wash-cycle. Unlike {@link #select(int, Input)}, the returned plan
+     * is the best one found before the search stagnates, rather than a proven optimal one.
+     *
+     * @param days    number of days for which the selection needs to be done
+     * @param input   apparels information
+     * @param laundry laundry requirement applicable to all the apparels
+     * @return if solution found then
+     * selected wardrobe in the form of day-wise assignments of tops and bottoms i.e. [(day, top, bottom)*]
+     * else null
+     */
+    public Output select(int days, Input input, Laundry laundry) {
+        return select(days, input.getNTops(), input.getNBottoms(),
+                input.getTopsFreshness(), input.getBottomsFreshness(), input.getMatchingPairs(), laundry);
+    }
+
+    /**
+     * Plans wardrobe-selections for multiple users sharing the same pool of apparels, such that an item is worn by
+     * at most one user on any given day. Matching-pairs restrictions are honored for every user's plan, whereas
+     * freshness restrictions are honored per item i.e. across all the users wearing it.
+     * <p>
+     * Users are decomposed into small batches; every batch is solved as one joint model and the items it picks are
+     * reserved for the subsequent batches. When a batch is proven infeasible around those reservations, it is
+     * re-planned jointly with the previously planned batch, releasing the latter's items. Every batch stops improving
+     * its plan once the search stagnates. The overall solve time is capped; running out of it yields null.
+     *
+     * @param days   number of days for which the selection needs to be done
+     * @param nUsers number of users sharing the apparels
+     * @param input  apparels information, as described in {@link #select(int, Input)}
+     * @return if solution found then
+     * user-wise selected wardrobes, each in the form of day-wise assignments of tops and bottoms i.e. [(day, top, bottom)*]
+     * else null i.e. no plan could be found within the time limit, which does not prove that none exists
+     * unless the joint model of all the users has been proven infeasible
+     */
+    public List<Output> selectShared(int days, int nUsers, Input input) {
+        return selectShared(days, nUsers, input, DEFAULT_USERS_PER_BATCH);
+    }
+
+    /**
+     * Same as {@link #selectShared(int, int, Input)}, with control over the number of users solved jointly.
+     * Larger batches give the solver more room to balance variety across users, at the cost of larger models.
+     *
+     * @param days          number of days for which the selection needs to be done
+     * @param nUsers        number of users sharing the apparels
+     * @param input         apparels information, as described in {@link #select(int, Input)}
+     * @param usersPerBatch number of users to be planned jointly in a single model
+     * @return if solution found then
+     * user-wise selected wardrobes, each in the form of day-wise assignments of tops and bottoms i.e. [(day, top, bottom)*]
+     * else null i.e. no plan could be found within the time limit, which does not prove that none exists
+     * unless the joint model of all the users has been proven infeasible
+     */
+    public List<Output> selectShared(int days, int nUsers, Input input, int usersPerBatch) {
+        if (usersPerBatch < 1) {
+            throw new IllegalArgumentException("At least one user needs to be planned per batch");
+        }
+        long deadline = System.currentTimeMillis() + SHARED_TIME_LIMIT_MILLIS;
+        List<List<Output>> plannedBatches = new ArrayList<>();
+        int firstUser = 0;
+        int batchSize = Math.min(usersPerBatch, nUsers);
+        while (firstUser < nUsers) {
+            long remainingTime = deadline - System.currentTimeMillis();
+            if (remainingTime <= 0) {
+                log.debug("Time limit reached before planning users {} to {}!", firstUser + 1, firstUser + batchSize);
+                return null;
+            }
+            // a batch may use up all the remaining time, though it stops as soon as its search stagnates
+            List<Output> batchOutputs = selectSharedBatch(days, firstUser, batchSize, input,
+                    reserveItems(days, plannedBatches, Output.AssignmentOfTheDay::getTop),
+                    reserveItems(days, plannedBatches, Output.AssignmentOfTheDay::getBottom),
+                    remainingTime);
+            if (batchOutputs != null) {
+                plannedBatches.add(batchOutputs);
+                firstUser += batchSize;
+                batchSize = Math.min(usersPerBatch, nUsers - firstUser);
+            } else if (System.currentTimeMillis() >= deadline) {
+                // the batch ran out of time rather than being proven infeasible, hence re-planning it would not help
+                log.debug("Time limit reached while planning users {} to {}!", firstUser + 1, firstUser + batchSize);
+                return null;
+            } else if (plannedBatches.isEmpty()) {
+                log.debug("Solution not found for users {} to {}!", firstUser + 1, firstUser + batchSize);
+                return null;
+            } else {
+                List<Output> previousBatch = plannedBatches.remove(plannedBatches.size() - 1);
+                firstUser -= previousBatch.size();
+                batchSize += previousBatch.size();
+                log.debug("Re-planning users {} to {} jointly.", firstUser + 1, firstUser + batchSize);
+            }
+        }
+        return plannedBatches.stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    private List<Set<Integer>> reserveItems(int days, List<List<Output>> plannedBatches,
+                                            ToIntFunction<Output.AssignmentOfTheDay> itemOfTheDay) {
+        List<Set<Integer>> reservedItems = new ArrayList<>();
+        for (int day = 0; day < days; day++) {
+            reservedItems.add(new HashSet<>());
+        }
+        plannedBatches.stream()
+                .flatMap(List::stream)
+                .flatMap(output -> output.getAssignmentOfTheDays().stream())
+                .forEach(assignment -> reservedItems.get(assignment.getDay() - 1).add(itemOfTheDay.applyAsInt(assignment)));
+        return reservedItems;
+    }
+
+    private List<Output> selectSharedBatch(int days, int firstUser, int batchSize, Input input,
+                                           List<Set<Integer>> reservedTops, List<Set<Integer>> reservedBottoms,
+                                           long timeLimitMillis) {
+        Model model = new Model("Shared Wardrobe Picking");
+
+        IntVar[][] tops = new IntVar[batchSize][];
+        IntVar[][] bottoms = new IntVar[batchSize][];
+        IntVar[] userL1Deviations = new IntVar[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            String user = "user" + (firstUser + i + 1);
+            tops[i] = model.intVarArray(user + "Tops", days, 1, input.getNTops());
+            bottoms[i] = model.intVarArray(user + "Bottoms", days, 1, input.getNBottoms());
+
+            // hard-constraints
+            addMatchingPairsConstraint(days, input.getMatchingPairs(), model, tops[i], bottoms[i]);
+            addReservationConstraint(days, reservedTops, model, tops[i]);
+            addReservationConstraint(days, reservedBottoms, model, bottoms[i]);
+
+            // soft-constraints to add variety in selection
+            IntVar topL1Deviation = computeDeviationInItemAssignment(model, tops[i], input.getNTops(), days, user + "Top");
+            IntVar bottomL1Deviation = computeDeviationInItemAssignment(model, bottoms[i], input.getNBottoms(), days, user + "Bottom");
+            // give more preference to tops' variety
+            userL1Deviations[i] = topL1Deviation.mul(2).add(bottomL1Deviation).intVar();
+        }
+        addSharedCapacityConstraint(days, model, tops);
+        addSharedCapacityConstraint(days, model, bottoms);
+        addSharedFreshnessConstraint(days, input.getTopsFreshness(), reservedTops, model, tops);
+        addSharedFreshnessConstraint(days, input.getBottomsFreshness(), reservedBottoms, model, bottoms);
+        IntVar totalL1Deviation = model.intVar("totalL1Deviation", 0,
+                Arrays.stream(userL1Deviations).mapToInt(IntVar::getUB).sum());
+        model.sum(userL1Deviations, "=", totalL1Deviation).post();
+
+        // solve
+        Solver solver = model.getSolver();
+        solver.setSearch(Search.domOverWDegSearch(dayWiseItems(days, tops, bottoms)));
+        solver.limitTime(timeLimitMillis);
+        Solution optimalSolution = findBestSolution(solver, totalL1Deviation, SHARED_STAGNATION_FAIL_LIMIT);
+        log.debug("Users {} to {}: {}", firstUser + 1, firstUser + batchSize, solver.getMeasures().toOneLineString());
+        if (optimalSolution == null) {
+            return null;
+        }
+        List<Output> batchOutputs = new ArrayList<>();
+        for (int i = 0; i < batchSize; i++) {
+            batchOutputs.add(prepareWardrobeSelection(tops[i], bottoms[i], optimalSolution));
+        }
+        return batchOutputs;
+    }
+
+    /**
+     * Minimizes the objective, but stops improving once the search stagnates,
+     * rather than spending the whole time-limit on proving optimality.
+     * Shared planning solves one model per batch of users, hence allows each of them fewer fails.
+     */
+    private Solution findBestSolution(Solver solver, IntVar objective, long stagnationFailLimit) {
+        AtomicLong failsAtLastSolution = new AtomicLong();
+        solver.plugMonitor((IMonitorSolution) () -> failsAtLastSolution.set(solver.getFailCount()));
+        return solver.findOptimalSolution(objective, Model.MINIMIZE,
+                () -> solver.getSolutionCount() > 0 && solver.getFailCount() - failsAtLastSolution.get() > stagnationFailLimit);
+    }
+
+    /**
+     * Day-wise items of all the users, ordered day by day; branching only on these leaves everything else
+     * to propagation, rather than having the default search flail on the auxiliary variables of the model.
+     */
+    private IntVar[] dayWiseItems(int days, IntVar[][] topsPerUser, IntVar[][] bottomsPerUser) {
+        IntVar[] itemsOfTheDays = new IntVar[2 * days * topsPerUser.length];
+        int i = 0;
+        for (int day = 0; day < days; day++) {
+            for (int user = 0; user < topsPerUser.length; user++) {
+                itemsOfTheDays[i++] = topsPerUser[user][day];
+                itemsOfTheDays[i++] = bottomsPerUser[user][day];
+            }
+        }
+        return itemsOfTheDays;
+    }
+
     @Data
     public static class Input {
         private final int nTops;
@@ -157,6 +515,14 @@ public class WardrobeSelector {
         private final List<Pair<Integer, Integer>> matchingPairs;
     }
 
+    @Data
+    public static class Laundry {
+        private final int wearsBeforeWash;
+        private final int washDays;
+        private final int washCapacity;
+        private final int cycleDays;
+    }
+
     @ToString
     @Getter
     @Setter
@@ -0,0 +1,74 @@
+package com.adus.wardrobepicker;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation benchmark for hydrating selector output against closets of growing size.
+ * <p>
+ * Per-thread allocation is read through the HotSpot-specific {@code com.sun.management.ThreadMXBean};
+ * the benchmark is skipped on JVMs that do not provide it. Allocation counters are TLAB-granular and include
+ * whatever the JIT allocates in between, hence the comparison only asserts that the per-call allocation of a
+ * 10k-items closet stays in the same ballpark as that of a 10-items closet, rather than asserting exact bytes.
+ */
+@Tag("benchmark")
+class WardrobeClosetBenchmarkTest {
+    private static final int DAYS = 5;
+    private static final int WARM_UP_CALLS = 10_000;
+    private static final int MEASURED_CALLS = 10_000;
+
+    @Test
+    void hydrateSelectorOutput_allocationDoesNotScaleWithClosetSize() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean,
+                "per-thread allocation counters are not available on this JVM");
+        var allocationCounter = (com.sun.management.ThreadMXBean) threadMXBean;
+        assumeTrue(allocationCounter.isThreadAllocatedMemorySupported()
+                && allocationCounter.isThreadAllocatedMemoryEnabled(), "per-thread allocation counters are disabled");
+
+        // ids 1..DAYS resolve to real items in both closets, so both do identical work
+        WardrobeSelector.Output selectorOutput = new WardrobeSelector.Output(IntStream.rangeClosed(1, DAYS)
+                .mapToObj(day -> new WardrobeSelector.Output.AssignmentOfTheDay(day, day, day))
+                .collect(Collectors.toList()));
+
+        long smallClosetBytesPerCall = measureHydrationAllocation(allocationCounter, closetOfSize(10), selectorOutput);
+        long largeClosetBytesPerCall = measureHydrationAllocation(allocationCounter, closetOfSize(10_000), selectorOutput);
+        System.out.println("hydrateSelectorOutput allocation: 10 items -> " + smallClosetBytesPerCall + " bytes/call, " +
+                "10k items -> " + largeClosetBytesPerCall + " bytes/call");
+
+        assertTrue(largeClosetBytesPerCall <= 2 * smallClosetBytesPerCall,
+                "hydrating a 10k-items closet allocated " + largeClosetBytesPerCall + " bytes/call " +
+                        "against " + smallClosetBytesPerCall + " bytes/call for a 10-items closet");
+    }
+
+    private static WardrobeCloset closetOfSize(int nItems) {
+        WardrobeCloset wardrobeCloset = new WardrobeCloset();
+        for (int i = 1; i <= nItems / 2; i++) {
+            wardrobeCloset
+                    .addTop("Top " + i).withFreshness(1)
+                    .addBottom("Bottom " + i).withFreshness(1);
+        }
+        return wardrobeCloset;
+    }
+
+    private static long measureHydrationAllocation(com.sun.management.ThreadMXBean allocationCounter,
+                                                   WardrobeCloset wardrobeCloset, WardrobeSelector.Output selectorOutput) {
+        for (int i = 0; i < WARM_UP_CALLS; i++) {
+            wardrobeCloset.hydrateSelectorOutput(selectorOutput);
+        }
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = allocationCounter.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            wardrobeCloset.hydrateSelectorOutput(selectorOutput);
+        }
+        return (allocationCounter.getThreadAllocatedBytes(threadId) - allocatedBefore) / MEASURED_CALLS;
+    }
+}
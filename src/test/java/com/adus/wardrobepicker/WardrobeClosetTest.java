@@ -89,4 +89,28 @@ class WardrobeClosetTest {
                         ")",
                 wardrobeSelection.toString());
     }
+
+    @Test
+    void hydratesSelectorOutput_replacedItemIsNotResolved() {
+        WardrobeCloset wardrobeCloset = new WardrobeCloset()
+                .addTop(RED_T_SHIRT).withFreshness(3)
+                .addTop(GREEN_SHIRT).withFreshness(2)
+                .addTop(RED_T_SHIRT).withFreshness(1)
+                .addBottom(CARGO_SHORTS).withFreshness(4);
+
+        WardrobeSelector.Output selectorOutput = new WardrobeSelector.Output(List.of(
+                new WardrobeSelector.Output.AssignmentOfTheDay(1, 1, 1),
+                new WardrobeSelector.Output.AssignmentOfTheDay(2, 3, 1)
+        ));
+        WardrobeSelection wardrobeSelection = wardrobeCloset.hydrateSelectorOutput(selectorOutput);
+        assertEquals("WardrobeSelection" +
+                        "(" +
+                        "assignmentOfTheDays=" +
+                        "[" +
+                        "WardrobeSelection.AssignmentOfTheDay(day=1, top=null, bottom=Cargo Shorts), " +
+                        "WardrobeSelection.AssignmentOfTheDay(day=2, top=Red T-Shirt, bottom=Cargo Shorts)" +
+                        "]" +
+                        ")",
+                wardrobeSelection.toString());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.adus.wardrobepicker;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Scaling benchmarks for the selector; they report solve times rather than asserting on them,
+ * as wall-clock times depend on the machine running them.
+ */
+@Tag("benchmark")
+class WardrobeSelectorBenchmarkTest {
+
+    @Test
+    void selectShared_scalesWithNumberOfUsers() {
+        int days = 7;
+        // no item is worn on consecutive days by anyone, hence 50 users need at least 100 items of each kind
+        int nItems = 120;
+
+        List<Pair<Integer, Integer>> freshness = IntStream.rangeClosed(1, nItems)
+                .mapToObj(item -> Pair.of(item, 1))
+                .collect(Collectors.toList());
+        // every top matches three bottoms
+        List<Pair<Integer, Integer>> matchingPairs = IntStream.rangeClosed(1, nItems)
+                .boxed()
+                .flatMap(top -> IntStream.range(0, 3).mapToObj(shift -> Pair.of(top, (top + shift - 1) % nItems + 1)))
+                .collect(Collectors.toList());
+        WardrobeSelector.Input input = new WardrobeSelector.Input(nItems, nItems, freshness, freshness, matchingPairs);
+
+        for (int nUsers : List.of(5, 10, 25, 50)) {
+            long startTime = System.nanoTime();
+            List<WardrobeSelector.Output> userWiseSelections = new WardrobeSelector().selectShared(days, nUsers, input);
+            Duration solveTime = Duration.ofNanos(System.nanoTime() - startTime);
+            System.out.println("selectShared: " + nUsers + " users -> " + solveTime.toMillis() + " ms");
+
+            assertNotNull(userWiseSelections);
+            for (int day = 0; day < days; day++) {
+                int dayIndex = day;
+                List<WardrobeSelector.Output.AssignmentOfTheDay> assignmentsOfTheDay = userWiseSelections.stream()
+                        .map(selection -> selection.getAssignmentOfTheDays().get(dayIndex))
+                        .collect(Collectors.toList());
+                assertEquals(nUsers, assignmentsOfTheDay.stream()
+                        .map(WardrobeSelector.Output.AssignmentOfTheDay::getTop).distinct().count());
+                assertEquals(nUsers, assignmentsOfTheDay.stream()
+                        .map(WardrobeSelector.Output.AssignmentOfTheDay::getBottom).distinct().count());
+            }
+        }
+    }
+
+    @Test
+    void selectWithLaundry_scalesWithNumberOfDays() {
+        int nTops = 6;
+        int nBottoms = 4;
+
+        List<Pair<Integer, Integer>> topsFreshness = IntStream.rangeClosed(1, nTops)
+                .mapToObj(top -> Pair.of(top, 2))
+                .collect(Collectors.toList());
+        List<Pair<Integer, Integer>> bottomsFreshness = IntStream.rangeClosed(1, nBottoms)
+                .mapToObj(bottom -> Pair.of(bottom, 3))
+                .collect(Collectors.toList());
+        List<Pair<Integer, Integer>> matchingPairs = IntStream.rangeClosed(1, nTops)
+                .boxed()
+                .flatMap(top -> IntStream.rangeClosed(1, nBottoms).mapToObj(bottom -> Pair.of(top, bottom)))
+                .collect(Collectors.toList());
+        WardrobeSelector.Input input = new WardrobeSelector.Input(nTops, nBottoms, topsFreshness, bottomsFreshness, matchingPairs);
+        WardrobeSelector.Laundry laundry = new WardrobeSelector.Laundry(3, 2, 7, 7);
+
+        for (int days : List.of(14, 28, 56, 91, 182)) {
+            long startTime = System.nanoTime();
+            WardrobeSelector.Output wardrobeSelection = new WardrobeSelector().select(days, input, laundry);
+            Duration solveTime = Duration.ofNanos(System.nanoTime() - startTime);
+            System.out.println("select with laundry: " + days + " days -> " + solveTime.toMillis() + " ms");
+
+            assertNotNull(wardrobeSelection);
+            assertEquals(days, wardrobeSelection.getAssignmentOfTheDays().size());
+        }
+    }
+}
@@ -4,9 +4,13 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class WardrobeSelectorTest {
 
@@ -203,4 +207,346 @@ class WardrobeSelectorTest {
         assertNull(wardrobeSelection);
     }
 
-}
\ No newline at end of file
+    @Test
+    void testSharedCase_itemWornByAtMostOneUserPerDay() {
+        // given
+        int days = 4;
+        int nUsers = 6;
+        // no item is worn on consecutive days by anyone, hence 6 users need at least 12 items of each kind
+        int nItems = 12;
+
+        List<Pair<Integer, Integer>> freshness = IntStream.rangeClosed(1, nItems)
+                .mapToObj(item -> Pair.of(item, 1))
+                .collect(Collectors.toList());
+        List<Pair<Integer, Integer>> matchingPairs = IntStream.rangeClosed(1, nItems)
+                .boxed()
+                .flatMap(top -> IntStream.rangeClosed(1, nItems).mapToObj(bottom -> Pair.of(top, bottom)))
+                .collect(Collectors.toList());
+        WardrobeSelector.Input input = new WardrobeSelector.Input(nItems, nItems, freshness, freshness, matchingPairs);
+
+        // when
+        List<WardrobeSelector.Output> userWiseSelections = new WardrobeSelector()
+                .selectShared(days, nUsers, input, 4);
+
+        // then
+        assertNotNull(userWiseSelections);
+        assertEquals(nUsers, userWiseSelections.size());
+        for (int day = 0; day < days; day++) {
+            int dayIndex = day;
+            List<WardrobeSelector.Output.AssignmentOfTheDay> assignmentsOfTheDay = userWiseSelections.stream()
+                    .map(selection -> selection.getAssignmentOfTheDays().get(dayIndex))
+                    .collect(Collectors.toList());
+            assertEquals(nUsers, assignmentsOfTheDay.stream()
+                    .map(WardrobeSelector.Output.AssignmentOfTheDay::getTop).distinct().count());
+            assertEquals(nUsers, assignmentsOfTheDay.stream()
+                    .map(WardrobeSelector.Output.AssignmentOfTheDay::getBottom).distinct().count());
+        }
+    }
+
+    @Test
+    void testSharedInfeasibleCase() {
+        // given
+        int days = 2;
+        int nUsers = 3;
+        int nTops = 3;
+        int nBottoms = 2;
+
+        List<Pair<Integer, Integer>> topsFreshness = List.of(
+                Pair.of(1, 2),
+                Pair.of(2, 2),
+                Pair.of(3, 2)
+        );
+        List<Pair<Integer, Integer>> bottomsFreshness = List.of(
+                Pair.of(1, 2),
+                Pair.of(2, 2)
+        );
+        List<Pair<Integer, Integer>> matchingPairs = List.of(
+                Pair.of(1, 1), Pair.of(1, 2),
+                Pair.of(2, 1), Pair.of(2, 2),
+                Pair.of(3, 1), Pair.of(3, 2));
+        WardrobeSelector.Input input = new WardrobeSelector.Input(nTops, nBottoms, topsFreshness, bottomsFreshness, matchingPairs);
+
+        // when
+        List<WardrobeSelector.Output> userWiseSelections = new WardrobeSelector()
+                .selectShared(days, nUsers, input);
+
+        // then
+        assertNull(userWiseSelections);
+    }
+
+    @Test
+    void testSharedCase_batchRePlannedWhenReservationsLeaveNoMatch() {
+        // given
+        int days = 1;
+        int nUsers = 2;
+        int nTops = 2;
+        int nBottoms = 2;
+
+        List<Pair<Integer, Integer>> topsFreshness = List.of(
+                Pair.of(1, 1),
+                Pair.of(2, 1)
+        );
+        List<Pair<Integer, Integer>> bottomsFreshness = List.of(
+                Pair.of(1, 1),
+                Pair.of(2, 1)
+        );
+        // only (1,2) & (2,1) can be worn together, whereas a lone first user may very well pick (1,1)
+        List<Pair<Integer, Integer>> matchingPairs = List.of(
+                Pair.of(1, 1), Pair.of(1, 2),
+                Pair.of(2, 1));
+        WardrobeSelector.Input input = new WardrobeSelector.Input(nTops, nBottoms, topsFreshness, bottomsFreshness, matchingPairs);
+
+        // when
+        List<WardrobeSelector.Output> userWiseSelections = new WardrobeSelector()
+                .selectShared(days, nUsers, input, 1);
+
+        // then
+        assertNotNull(userWiseSelections);
+        assertEquals(List.of("(1,2)", "(2,1)"), userWiseSelections.stream()
+                .map(selection -> selection.getAssignmentOfTheDays().get(0))
+                .map(assignment -> "(" + assignment.getTop() + "," + assignment.getBottom() + ")")
+                .sorted()
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void testSharedInfeasibleCase_acrossBatches() {
+        // given
+        int days = 2;
+        int nUsers = 3;
+        int nTops = 3;
+        int nBottoms = 2;
+
+        List<Pair<Integer, Integer>> topsFreshness = List.of(
+                Pair.of(1, 2),
+                Pair.of(2, 2),
+                Pair.of(3, 2)
+        );
+        List<Pair<Integer, Integer>> bottomsFreshness = List.of(
+                Pair.of(1, 2),
+                Pair.of(2, 2)
+        );
+        List<Pair<Integer, Integer>> matchingPairs = List.of(
+                Pair.of(1, 1), Pair.of(1, 2),
+                Pair.of(2, 1), Pair.of(2, 2),
+                Pair.of(3, 1), Pair.of(3, 2));
+        WardrobeSelector.Input input = new WardrobeSelector.Input(nTops, nBottoms, topsFreshness, bottomsFreshness, matchingPairs);
+
+        // when
+        // every user gets a batch of its own, so that the third one runs out of bottoms reserved by the first two
+        List<WardrobeSelector.Output> userWiseSelections = new WardrobeSelector()
+                .selectShared(days, nUsers, input, 1);
+
+        // then
+        assertNull(userWiseSelections);
+    }
+
+    @Test
+    void testSharedCase_freshnessHonoredAcrossUsers() {
+        // given
+        int days = 4;
+        int nUsers = 2;
+        int nItems = 4;
+
+        List<Pair<Integer, Integer>> freshness = IntStream.rangeClosed(1, nItems)
+                .mapToObj(item -> Pair.of(item, 1))
+                .collect(Collectors.toList());
+        List<Pair<Integer, Integer>> matchingPairs = IntStream.rangeClosed(1, nItems)
+                .boxed()
+                .flatMap(top -> IntStream.rangeClosed(1, nItems).mapToObj(bottom -> Pair.of(top, bottom)))
+                .collect(Collectors.toList());
+        WardrobeSelector.Input input = new WardrobeSelector.Input(nItems, nItems, freshness, freshness, matchingPairs);
+
+        // jointly, as well as one user at a time i.e. through reservations
+        for (int usersPerBatch : List.of(2, 1)) {
+            // when
+            List<WardrobeSelector.Output> userWiseSelections = new WardrobeSelector()
+                    .selectShared(days, nUsers, input, usersPerBatch);
+
+            // then
+            assertNotNull(userWiseSelections);
+            for (int day = 1; day < days; day++) {
+                int dayIndex = day;
+                List<WardrobeSelector.Output.AssignmentOfTheDay> assignmentsOfThePreviousDay = userWiseSelections.stream()
+                        .map(selection -> selection.getAssignmentOfTheDays().get(dayIndex - 1))
+                        .collect(Collectors.toList());
+                for (WardrobeSelector.Output selection : userWiseSelections) {
+                    WardrobeSelector.Output.AssignmentOfTheDay assignment = selection.getAssignmentOfTheDays().get(dayIndex);
+                    assertTrue(assignmentsOfThePreviousDay.stream().noneMatch(previous -> previous.getTop() == assignment.getTop()),
+                            "Top " + assignment.getTop() + " worn on consecutive days " + dayIndex + " & " + (dayIndex + 1));
+                    assertTrue(assignmentsOfThePreviousDay.stream().noneMatch(previous -> previous.getBottom() == assignment.getBottom()),
+                            "Bottom " + assignment.getBottom() + " worn on consecutive days " + dayIndex + " & " + (dayIndex + 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSharedInfeasibleCase_freshnessAcrossUsers() {
+        // given
+        int days = 2;
+        int nUsers = 2;
+        int nTops = 2;
+        int nBottoms = 2;
+
+        List<Pair<Integer, Integer>> topsFreshness = List.of(
+                Pair.of(1, 1),
+                Pair.of(2, 1)
+        );
+        List<Pair<Integer, Integer>> bottomsFreshness = List.of(
+                Pair.of(1, 1),
+                Pair.of(2, 1)
+        );
+        List<Pair<Integer, Integer>> matchingPairs = List.of(
+                Pair.of(1, 1), Pair.of(1, 2),
+                Pair.of(2, 1), Pair.of(2, 2));
+        WardrobeSelector.Input input = new WardrobeSelector.Input(nTops, nBottoms, topsFreshness, bottomsFreshness, matchingPairs);
+
+        // when
+        // both tops are worn on the first day, hence neither of them is fresh for the second day, whoever wears it
+        List<WardrobeSelector.Output> userWiseSelections = new WardrobeSelector()
+                .selectShared(days, nUsers, input);
+
+        // then
+        assertNull(userWiseSelections);
+    }
+
+    @Test
+    void testLaundryCase_longHorizon() {
+        // given
+        int days = 91;
+        int nTops = 6;
+        int nBottoms = 4;
+
+        List<Pair<Integer, Integer>> topsFreshness = IntStream.rangeClosed(1, nTops)
+                .mapToObj(top -> Pair.of(top, 2))
+                .collect(Collectors.toList());
+        List<Pair<Integer, Integer>> bottomsFreshness = IntStream.rangeClosed(1, nBottoms)
+                .mapToObj(bottom -> Pair.of(bottom, 3))
+                .collect(Collectors.toList());
+        List<Pair<Integer, Integer>> matchingPairs = IntStream.rangeClosed(1, nTops)
+                .boxed()
+                .flatMap(top -> IntStream.rangeClosed(1, nBottoms).mapToObj(bottom -> Pair.of(top, bottom)))
+                .collect(Collectors.toList());
+        WardrobeSelector.Input input = new WardrobeSelector.Input(nTops, nBottoms, topsFreshness, bottomsFreshness, matchingPairs);
+        WardrobeSelector.Laundry laundry = new WardrobeSelector.Laundry(3, 2, 7, 7);
+
+        // when
+        WardrobeSelector.Output wardrobeSelection = new WardrobeSelector().select(days, input, laundry);
+
+        // then
+        assertNotNull(wardrobeSelection);
+        assertEquals(days, wardrobeSelection.getAssignmentOfTheDays().size());
+        assertLaundryHonored(days, nTops, nBottoms, laundry, wardrobeSelection);
+    }
+
+    @Test
+    void testLaundryCase_restrictiveMatchingPairs() {
+        // given
+        int days = 28;
+        int nTops = 4;
+        int nBottoms = 3;
+
+        List<Pair<Integer, Integer>> topsFreshness = IntStream.rangeClosed(1, nTops)
+                .mapToObj(top -> Pair.of(top, 2))
+                .collect(Collectors.toList());
+        List<Pair<Integer, Integer>> bottomsFreshness = IntStream.rangeClosed(1, nBottoms)
+                .mapToObj(bottom -> Pair.of(bottom, 2))
+                .collect(Collectors.toList());
+        List<Pair<Integer, Integer>> matchingPairs = List.of(
+                Pair.of(1, 1),
+                Pair.of(2, 1), Pair.of(2, 2),
+                Pair.of(3, 2), Pair.of(3, 3),
+                Pair.of(4, 3));
+        WardrobeSelector.Input input = new WardrobeSelector.Input(nTops, nBottoms, topsFreshness, bottomsFreshness, matchingPairs);
+        WardrobeSelector.Laundry laundry = new WardrobeSelector.Laundry(3, 1, 6, 7);
+
+        // when
+        WardrobeSelector.Output wardrobeSelection = new WardrobeSelector().select(days, input, laundry);
+
+        // then
+        assertNotNull(wardrobeSelection);
+        assertEquals(days, wardrobeSelection.getAssignmentOfTheDays().size());
+        for (WardrobeSelector.Output.AssignmentOfTheDay assignment : wardrobeSelection.getAssignmentOfTheDays()) {
+            assertTrue(matchingPairs.contains(Pair.of(assignment.getTop(), assignment.getBottom())),
+                    "Non-matching pair worn on day " + assignment.getDay());
+        }
+        assertLaundryHonored(days, nTops, nBottoms, laundry, wardrobeSelection);
+    }
+
+    @Test
+    void testLaundryInfeasibleCase() {
+        // given
+        int days = 4;
+        int nTops = 1;
+        int nBottoms = 1;
+
+        List<Pair<Integer, Integer>> freshness = List.of(Pair.of(1, 4));
+        List<Pair<Integer, Integer>> matchingPairs = List.of(Pair.of(1, 1));
+        WardrobeSelector.Input input = new WardrobeSelector.Input(nTops, nBottoms, freshness, freshness, matchingPairs);
+        WardrobeSelector.Laundry laundry = new WardrobeSelector.Laundry(2, 1, 2, 7);
+
+        // when
+        WardrobeSelector.Output wardrobeSelection = new WardrobeSelector().select(days, input, laundry);
+
+        // then
+        assertNull(wardrobeSelection);
+    }
+
+    @Test
+    void testLaundryCase_washCapacityBinds() {
+        // given
+        int days = 7;
+        int nTops = 2;
+        int nBottoms = 2;
+
+        List<Pair<Integer, Integer>> freshness = List.of(Pair.of(1, 1), Pair.of(2, 1));
+        List<Pair<Integer, Integer>> matchingPairs = List.of(Pair.of(1, 1), Pair.of(1, 2), Pair.of(2, 1), Pair.of(2, 2));
+        WardrobeSelector.Input input = new WardrobeSelector.Input(nTops, nBottoms, freshness, freshness, matchingPairs);
+        // every wear sends the item to wash, hence a week needs 14 washes
+        WardrobeSelector.Laundry laundry = new WardrobeSelector.Laundry(1, 1, 14, 7);
+        WardrobeSelector.Laundry shortOfOneWash = new WardrobeSelector.Laundry(1, 1, 13, 7);
+
+        // when
+        WardrobeSelector.Output wardrobeSelection = new WardrobeSelector().select(days, input, laundry);
+        WardrobeSelector.Output wardrobeSelectionShortOfOneWash = new WardrobeSelector().select(days, input, shortOfOneWash);
+
+        // then
+        assertNotNull(wardrobeSelection);
+        assertLaundryHonored(days, nTops, nBottoms, laundry, wardrobeSelection);
+        assertNull(wardrobeSelectionShortOfOneWash);
+    }
+
+    private static void assertLaundryHonored(int days, int nTops, int nBottoms, WardrobeSelector.Laundry laundry,
+                                             WardrobeSelector.Output wardrobeSelection) {
+        List<Integer> topsOfTheDays = wardrobeSelection.getAssignmentOfTheDays().stream()
+                .map(WardrobeSelector.Output.AssignmentOfTheDay::getTop)
+                .collect(Collectors.toList());
+        List<Integer> bottomsOfTheDays = wardrobeSelection.getAssignmentOfTheDays().stream()
+                .map(WardrobeSelector.Output.AssignmentOfTheDay::getBottom)
+                .collect(Collectors.toList());
+        int[] sentToWashPerCycle = new int[days / laundry.getCycleDays() + 1];
+        for (Pair<Integer, List<Integer>> kindWiseItems : List.of(Pair.of(nTops, topsOfTheDays), Pair.of(nBottoms, bottomsOfTheDays))) {
+            int nItems = kindWiseItems.getLeft();
+            List<Integer> itemsOfTheDays = kindWiseItems.getRight();
+            for (int item = 1; item <= nItems; item++) {
+                int wears = 0;
+                int unavailableTillDay = -1;
+                for (int day = 0; day < days; day++) {
+                    if (itemsOfTheDays.get(day) != item) {
+                        continue;
+                    }
+                    assertTrue(day > unavailableTillDay, "Item " + item + " worn on day " + (day + 1) + " while in laundry");
+                    if (++wears == laundry.getWearsBeforeWash()) {
+                        wears = 0;
+                        unavailableTillDay = day + laundry.getWashDays();
+                        sentToWashPerCycle[day / laundry.getCycleDays()]++;
+                    }
+                }
+            }
+        }
+        for (int sentToWash : sentToWashPerCycle) {
+            assertTrue(sentToWash <= laundry.getWashCapacity(), sentToWash + " items sent to laundry within a wash-cycle");
+        }
+    }
+}